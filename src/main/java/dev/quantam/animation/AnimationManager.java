@@ -34,4 +34,13 @@ public class AnimationManager {
 
         animations.removeIf(animation -> !animation.isRunning());
     }
+
+    /**
+     * Gets the number of animations currently managed by this manager.
+     *
+     * @return The number of animations that have not yet finished.
+     */
+    public int getAnimationCount() {
+        return animations.size();
+    }
 }
@@ -0,0 +1,463 @@
+package dev.quantam.animation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A manager class that updates many independent scenes in parallel.
+ * Each scene is an {@link AnimationManager} pinned to one of several
+ * worker threads (shards). All shards are ticked together behind a frame
+ * barrier, and a shard that runs out of its own scenes steals pending
+ * scenes from whichever shard has the most left for the rest of the frame.
+ * <p>
+ * A scene is never updated by two threads at once, and every frame
+ * finishes before {@link #update(float)} returns, so callbacks of one
+ * scene keep the same single-threaded semantics as a plain
+ * {@link AnimationManager}. Callbacks may call {@link #addScene},
+ * {@link #removeScene} and {@link #getShardLoad}; scenes added or removed
+ * during a frame take part from the next frame on. Calling
+ * {@link #update(float)} or {@link #shutdown()} from a callback throws
+ * {@link IllegalStateException}.
+ *
+ * @author quantam
+ * @since v1.0
+ */
+public class ShardedAnimationManager {
+
+    private final Shard[] shards;
+    private final Phaser frameBarrier;
+    private final Object frameLock = new Object();
+    private final Set<AnimationManager> registry = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean running;
+    private volatile Throwable fatal;
+    private float deltaTime;
+
+    /**
+     * Constructs a ShardedAnimationManager with one shard per available processor.
+     */
+    public ShardedAnimationManager() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a ShardedAnimationManager and starts its worker threads.
+     *
+     * @param shardCount The number of shards (worker threads) to use.
+     */
+    public ShardedAnimationManager(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be at least 1");
+        }
+
+        this.shards = new Shard[shardCount];
+        this.frameBarrier = new Phaser(shardCount + 1);
+        this.running = true;
+
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        int started = 0;
+        try {
+            for (Shard shard : shards) {
+                shard.thread.start();
+                started++;
+            }
+        } catch (Throwable t) {
+            // Release the workers that did start, they see the shutdown and exit.
+            running = false;
+            for (int i = started; i < shardCount; i++) {
+                frameBarrier.arriveAndDeregister();
+            }
+            frameBarrier.arriveAndDeregister();
+            throw t;
+        }
+    }
+
+    /**
+     * Adds a scene to the least loaded shard.
+     *
+     * @param scene The scene to add.
+     * @return The index of the shard the scene was pinned to.
+     * @throws NullPointerException     If the scene is null.
+     * @throws IllegalArgumentException If the scene is already registered.
+     */
+    public int addScene(AnimationManager scene) {
+        Objects.requireNonNull(scene, "scene");
+        synchronized (registry) {
+            if (!registry.add(scene)) {
+                throw new IllegalArgumentException("Scene is already registered");
+            }
+
+            Shard target = shards[0];
+            int targetLoad = target.getAnimationCount();
+            for (int i = 1; i < shards.length; i++) {
+                int load = shards[i].getAnimationCount();
+                if (load < targetLoad || (load == targetLoad && shards[i].scenes.length < target.scenes.length)) {
+                    target = shards[i];
+                    targetLoad = load;
+                }
+            }
+
+            AnimationManager[] scenes = Arrays.copyOf(target.scenes, target.scenes.length + 1);
+            scenes[scenes.length - 1] = scene;
+            target.scenes = scenes;
+            return target.index;
+        }
+    }
+
+    /**
+     * Removes a scene from whichever shard it is pinned to.
+     *
+     * @param scene The scene to remove.
+     * @return true if the scene was found and removed, false otherwise.
+     * @throws NullPointerException If the scene is null.
+     */
+    public boolean removeScene(AnimationManager scene) {
+        Objects.requireNonNull(scene, "scene");
+        synchronized (registry) {
+            if (!registry.remove(scene)) {
+                return false;
+            }
+
+            for (Shard shard : shards) {
+                AnimationManager[] scenes = shard.scenes;
+                for (int i = 0; i < scenes.length; i++) {
+                    if (scenes[i] == scene) {
+                        AnimationManager[] remaining = new AnimationManager[scenes.length - 1];
+                        System.arraycopy(scenes, 0, remaining, 0, i);
+                        System.arraycopy(scenes, i + 1, remaining, i, scenes.length - i - 1);
+                        shard.scenes = remaining;
+                        return true;
+                    }
+                }
+            }
+            throw new IllegalStateException("Registered scene is not pinned to any shard");
+        }
+    }
+
+    /**
+     * Updates every scene once and waits for the whole frame to finish.
+     * If any scene throws, the first failure is rethrown here after the
+     * frame has completed. Interrupting the calling thread does not cut
+     * a frame short; the interrupt status is left set.
+     *
+     * @param deltaTime The time elapsed since the last update, in seconds.
+     * @throws IllegalStateException If called from a scene callback, after
+     *                               {@link #shutdown()}, or if a worker thread died.
+     */
+    public void update(float deltaTime) {
+        checkNotShardThread();
+
+        synchronized (frameLock) {
+            checkUsable();
+
+            this.deltaTime = deltaTime;
+            synchronized (registry) {
+                for (Shard shard : shards) {
+                    shard.frameScenes = shard.scenes;
+                    shard.claim.set(0);
+                }
+            }
+
+            frameBarrier.arriveAndAwaitAdvance();
+            frameBarrier.arriveAndAwaitAdvance();
+
+            // A worker that died mid-frame may have left scenes unticked.
+            if (fatal != null) {
+                failure.set(null);
+                throw new IllegalStateException("A shard worker thread died", fatal);
+            }
+
+            Throwable error = failure.getAndSet(null);
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            if (error != null) {
+                throw new IllegalStateException("Scene update failed", error);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of shards (worker threads) used by this manager.
+     *
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Gets a snapshot of the load of a shard. Frame statistics refer to the
+     * last frame the shard completed; the animation count is only approximate
+     * while a frame is running.
+     *
+     * @param shardIndex The index of the shard.
+     * @return The load of the shard.
+     */
+    public ShardLoad getShardLoad(int shardIndex) {
+        Shard shard = shards[shardIndex];
+        FrameStats stats = shard.lastFrame;
+        return new ShardLoad(shard.scenes.length, shard.getAnimationCount(), stats.scenesTicked, stats.scenesStolen, stats.busyNanos);
+    }
+
+    /**
+     * Stops all worker threads and waits for them to exit. Further calls to
+     * {@link #update(float)} will fail. Calling this more than once has no effect.
+     *
+     * @throws IllegalStateException If called from a scene callback.
+     */
+    public void shutdown() {
+        checkNotShardThread();
+
+        synchronized (frameLock) {
+            if (!running) return;
+
+            running = false;
+            frameBarrier.arriveAndAwaitAdvance();
+
+            boolean interrupted = false;
+            for (Shard shard : shards) {
+                while (shard.thread.isAlive()) {
+                    try {
+                        shard.thread.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Fails fast when the calling thread is one of this manager's workers,
+     * where waiting for a frame would never finish.
+     */
+    private void checkNotShardThread() {
+        Thread current = Thread.currentThread();
+        for (Shard shard : shards) {
+            if (shard.thread == current) {
+                throw new IllegalStateException("Cannot be called from a scene callback");
+            }
+        }
+    }
+
+    /**
+     * Fails when the manager has been shut down or a worker thread died.
+     */
+    private void checkUsable() {
+        if (fatal != null) {
+            throw new IllegalStateException("A shard worker thread died", fatal);
+        }
+        if (!running) {
+            throw new IllegalStateException("ShardedAnimationManager has been shut down");
+        }
+    }
+
+    /**
+     * Runs frames on a shard's worker thread until the manager is shut down.
+     *
+     * @param shard The shard owned by the calling thread.
+     */
+    private void runShard(Shard shard) {
+        try {
+            while (true) {
+                frameBarrier.arriveAndAwaitAdvance();
+                if (!running) return;
+
+                tickShard(shard);
+                frameBarrier.arriveAndAwaitAdvance();
+            }
+        } catch (Throwable t) {
+            // Leave the barrier so the remaining parties never wait on a dead thread.
+            fatal = t;
+            frameBarrier.arriveAndDeregister();
+        }
+    }
+
+    /**
+     * Ticks the shard's own scenes, then keeps stealing a pending scene from
+     * the shard with the most scenes left until every shard is drained.
+     *
+     * @param shard The shard owned by the calling thread.
+     */
+    private void tickShard(Shard shard) {
+        long start = System.nanoTime();
+        int ticked = 0;
+        int stolen = 0;
+
+        while (claimAndTick(shard)) {
+            ticked++;
+        }
+
+        Shard victim;
+        while ((victim = findVictim()) != null) {
+            if (claimAndTick(victim)) {
+                stolen++;
+            }
+        }
+
+        shard.lastFrame = new FrameStats(ticked + stolen, stolen, System.nanoTime() - start);
+    }
+
+    /**
+     * Finds the shard with the most scenes left to claim in this frame.
+     *
+     * @return The shard with the most remaining scenes, or null if all are drained.
+     */
+    private Shard findVictim() {
+        Shard victim = null;
+        int most = 0;
+        for (Shard shard : shards) {
+            int remaining = shard.remaining();
+            if (remaining > most) {
+                victim = shard;
+                most = remaining;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Claims the next pending scene of a shard and updates it.
+     *
+     * @param shard The shard whose scene to claim.
+     * @return true if a scene was claimed and updated, false if none were left.
+     */
+    private boolean claimAndTick(Shard shard) {
+        AnimationManager[] scenes = shard.frameScenes;
+        int i = shard.claim.getAndIncrement();
+        if (i >= scenes.length) return false;
+
+        tickScene(scenes[i]);
+        return true;
+    }
+
+    /**
+     * Updates a single scene, recording the first failure of the frame.
+     *
+     * @param scene The scene to update.
+     */
+    private void tickScene(AnimationManager scene) {
+        try {
+            scene.update(deltaTime);
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+    }
+
+    /**
+     * A worker thread together with the scenes pinned to it.
+     */
+    private final class Shard {
+
+        private final int index;
+        private final Thread thread;
+        private final AtomicInteger claim = new AtomicInteger();
+        private volatile AnimationManager[] scenes = new AnimationManager[0];
+        private AnimationManager[] frameScenes = scenes;
+        private volatile FrameStats lastFrame = new FrameStats(0, 0, 0);
+
+        private Shard(int index) {
+            this.index = index;
+            this.thread = new Thread(() -> runShard(this), "AnimationShard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private int remaining() {
+            return frameScenes.length - claim.get();
+        }
+
+        private int getAnimationCount() {
+            int count = 0;
+            for (AnimationManager scene : scenes) {
+                count += scene.getAnimationCount();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Statistics of the last frame a shard completed.
+     */
+    private static final class FrameStats {
+
+        private final int scenesTicked;
+        private final int scenesStolen;
+        private final long busyNanos;
+
+        private FrameStats(int scenesTicked, int scenesStolen, long busyNanos) {
+            this.scenesTicked = scenesTicked;
+            this.scenesStolen = scenesStolen;
+            this.busyNanos = busyNanos;
+        }
+    }
+
+    /**
+     * A snapshot of the load of a single shard.
+     */
+    public static final class ShardLoad {
+
+        private final int sceneCount;
+        private final int animationCount;
+        private final int scenesTicked;
+        private final int scenesStolen;
+        private final long busyNanos;
+
+        private ShardLoad(int sceneCount, int animationCount, int scenesTicked, int scenesStolen, long busyNanos) {
+            this.sceneCount = sceneCount;
+            this.animationCount = animationCount;
+            this.scenesTicked = scenesTicked;
+            this.scenesStolen = scenesStolen;
+            this.busyNanos = busyNanos;
+        }
+
+        /**
+         * @return The number of scenes pinned to the shard.
+         */
+        public int getSceneCount() {
+            return sceneCount;
+        }
+
+        /**
+         * @return The number of running animations across the shard's pinned scenes.
+         */
+        public int getAnimationCount() {
+            return animationCount;
+        }
+
+        /**
+         * @return The number of scenes the shard's thread updated in the last frame, including stolen ones.
+         */
+        public int getScenesTicked() {
+            return scenesTicked;
+        }
+
+        /**
+         * @return The number of scenes the shard's thread stole from other shards in the last frame.
+         */
+        public int getScenesStolen() {
+            return scenesStolen;
+        }
+
+        /**
+         * @return The time the shard's thread spent updating scenes in the last frame, in nanoseconds.
+         */
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+    }
+}
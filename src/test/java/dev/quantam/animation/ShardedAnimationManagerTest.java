@@ -0,0 +1,355 @@
+package dev.quantam.animation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ShardedAnimationManagerTest {
+
+    private ShardedAnimationManager manager;
+
+    @AfterEach
+    void tearDown() {
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    void ticksEverySceneExactlyOncePerFrame() {
+        manager = new ShardedAnimationManager(4);
+        List<CountingScene> scenes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            CountingScene scene = new CountingScene(0);
+            scenes.add(scene);
+            manager.addScene(scene);
+        }
+
+        for (int frame = 0; frame < 50; frame++) {
+            manager.update(0.016f);
+        }
+
+        for (CountingScene scene : scenes) {
+            assertEquals(50, scene.updates.get());
+        }
+    }
+
+    @Test
+    void neverUpdatesSceneConcurrently() {
+        manager = new ShardedAnimationManager(4);
+        List<CountingScene> scenes = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            // Pausing inside each update hands the processor to other workers even on a single core.
+            CountingScene scene = new CountingScene(5_000, 1);
+            scenes.add(scene);
+            manager.addScene(scene);
+        }
+
+        for (int frame = 0; frame < 50; frame++) {
+            manager.update(0.016f);
+        }
+
+        Set<Thread> workers = ConcurrentHashMap.newKeySet();
+        for (CountingScene scene : scenes) {
+            assertFalse(scene.overlapped.get());
+            assertEquals(50, scene.updates.get());
+            workers.addAll(scene.threads);
+        }
+        assertTrue(workers.size() > 1);
+        assertFalse(workers.contains(Thread.currentThread()));
+    }
+
+    @Test
+    void rejectsNullScene() {
+        manager = new ShardedAnimationManager(2);
+
+        assertThrows(NullPointerException.class, () -> manager.addScene(null));
+        assertThrows(NullPointerException.class, () -> manager.removeScene(null));
+
+        CountingScene scene = new CountingScene(0);
+        assertEquals(0, manager.addScene(scene));
+        manager.update(0.016f);
+        assertEquals(1, scene.updates.get());
+        assertEquals(1, manager.getShardLoad(0).getSceneCount());
+    }
+
+    @Test
+    void rejectsSceneAddedTwice() {
+        manager = new ShardedAnimationManager(4);
+        CountingScene scene = new CountingScene(0);
+        manager.addScene(scene);
+
+        assertThrows(IllegalArgumentException.class, () -> manager.addScene(scene));
+
+        manager.update(0.016f);
+        assertEquals(1, scene.updates.get());
+
+        assertTrue(manager.removeScene(scene));
+        assertFalse(manager.removeScene(scene));
+        manager.addScene(scene);
+        manager.update(0.016f);
+        assertEquals(2, scene.updates.get());
+    }
+
+    @Test
+    void stealsFromOverloadedShard() {
+        manager = new ShardedAnimationManager(2);
+
+        // One running animation makes shard 0 look busier, so all slow scenes are pinned to shard 1.
+        AnimationManager light = new AnimationManager();
+        light.addAnimation(runningAnimation());
+        assertEquals(0, manager.addScene(light));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(1, manager.addScene(new SleepingScene(5)));
+        }
+
+        manager.update(0.016f);
+
+        ShardedAnimationManager.ShardLoad idle = manager.getShardLoad(0);
+        ShardedAnimationManager.ShardLoad busy = manager.getShardLoad(1);
+        assertTrue(idle.getScenesStolen() > 0);
+        assertEquals(0, busy.getScenesStolen());
+        assertEquals(21, idle.getScenesTicked() + busy.getScenesTicked());
+    }
+
+    @Test
+    void rethrowsFirstSceneFailureAndKeepsRunning() {
+        manager = new ShardedAnimationManager(2);
+        CountingScene healthy = new CountingScene(0);
+        AnimationManager failing = new AnimationManager() {
+            private boolean failed;
+
+            @Override
+            public void update(float deltaTime) {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalArgumentException("boom");
+                }
+            }
+        };
+        manager.addScene(healthy);
+        manager.addScene(failing);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> manager.update(0.016f));
+        assertEquals("boom", error.getMessage());
+        assertEquals(1, healthy.updates.get());
+
+        manager.update(0.016f);
+        assertEquals(2, healthy.updates.get());
+    }
+
+    @Test
+    void updateAfterShutdownThrows() {
+        manager = new ShardedAnimationManager(2);
+        manager.update(0.016f);
+        manager.shutdown();
+        manager.shutdown();
+
+        assertThrows(IllegalStateException.class, () -> manager.update(0.016f));
+    }
+
+    @Test
+    void reportsShardLoad() {
+        manager = new ShardedAnimationManager(2);
+        AnimationManager first = new AnimationManager();
+        for (int i = 0; i < 3; i++) {
+            first.addAnimation(runningAnimation());
+        }
+        AnimationManager second = new AnimationManager();
+        second.addAnimation(runningAnimation());
+        AnimationManager third = new AnimationManager();
+        third.addAnimation(runningAnimation());
+
+        assertEquals(0, manager.addScene(first));
+        assertEquals(1, manager.addScene(second));
+        assertEquals(1, manager.addScene(third));
+
+        manager.update(0.016f);
+
+        ShardedAnimationManager.ShardLoad shard0 = manager.getShardLoad(0);
+        ShardedAnimationManager.ShardLoad shard1 = manager.getShardLoad(1);
+        assertEquals(1, shard0.getSceneCount());
+        assertEquals(3, shard0.getAnimationCount());
+        assertEquals(2, shard1.getSceneCount());
+        assertEquals(2, shard1.getAnimationCount());
+        assertEquals(3, shard0.getScenesTicked() + shard1.getScenesTicked());
+    }
+
+    @Test
+    void callbacksCanUseManagerWithoutDeadlock() {
+        manager = new ShardedAnimationManager(2);
+        AtomicReference<ShardedAnimationManager.ShardLoad> seen = new AtomicReference<>();
+        AtomicReference<Throwable> nestedUpdate = new AtomicReference<>();
+        CountingScene added = new CountingScene(0);
+        AnimationManager scene = new AnimationManager() {
+            @Override
+            public void update(float deltaTime) {
+                seen.set(manager.getShardLoad(0));
+                if (nestedUpdate.get() == null) {
+                    manager.addScene(added);
+                    try {
+                        manager.update(deltaTime);
+                    } catch (IllegalStateException e) {
+                        nestedUpdate.set(e);
+                    }
+                }
+            }
+        };
+        manager.addScene(scene);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            manager.update(0.016f);
+            manager.update(0.016f);
+        });
+
+        assertNotNull(seen.get());
+        assertInstanceOf(IllegalStateException.class, nestedUpdate.get());
+        assertEquals(1, added.updates.get());
+    }
+
+    @Test
+    void interruptDoesNotBreakFrames() {
+        manager = new ShardedAnimationManager(2);
+        CountingScene scene = new CountingScene(0);
+        manager.addScene(scene);
+
+        Thread.currentThread().interrupt();
+        manager.update(0.016f);
+        assertTrue(Thread.interrupted());
+        assertEquals(1, scene.updates.get());
+
+        manager.update(0.016f);
+        assertEquals(2, scene.updates.get());
+        manager.shutdown();
+        assertThrows(IllegalStateException.class, () -> manager.update(0.016f));
+    }
+
+    @Test
+    @Tag("perf")
+    void throughputScalesWithShards() {
+        int shardCount = Math.min(4, Runtime.getRuntime().availableProcessors());
+        assumeTrue(shardCount > 1, "needs more than one processor");
+
+        long single = measureFrames(1);
+        long sharded = measureFrames(shardCount);
+        assertTrue(sharded * 1.3 < single, "expected " + shardCount + " shards to beat 1 shard: " + sharded + "ns vs " + single + "ns");
+    }
+
+    private long measureFrames(int shardCount) {
+        ShardedAnimationManager sharded = new ShardedAnimationManager(shardCount);
+        try {
+            List<CountingScene> scenes = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                CountingScene scene = new CountingScene(5_000);
+                scenes.add(scene);
+                sharded.addScene(scene);
+            }
+
+            for (int frame = 0; frame < 10; frame++) {
+                sharded.update(0.016f);
+            }
+
+            long start = System.nanoTime();
+            for (int frame = 0; frame < 30; frame++) {
+                sharded.update(0.016f);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            for (CountingScene scene : scenes) {
+                assertEquals(40, scene.updates.get());
+            }
+            return elapsed;
+        } finally {
+            sharded.shutdown();
+        }
+    }
+
+    private static AnimationEngine runningAnimation() {
+        AnimationEngine animation = new AnimationEngine(1000f, progress -> {
+        }, progress -> progress);
+        animation.start();
+        return animation;
+    }
+
+    /**
+     * A scene that counts its updates, spins and optionally sleeps for a while,
+     * records the threads that updated it and flags overlapping updates.
+     */
+    private static class CountingScene extends AnimationManager {
+
+        private final AtomicInteger updates = new AtomicInteger();
+        private final AtomicBoolean updating = new AtomicBoolean();
+        private final AtomicBoolean overlapped = new AtomicBoolean();
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        private final int work;
+        private final long pauseMillis;
+        private volatile double sink;
+
+        private CountingScene(int work) {
+            this(work, 0);
+        }
+
+        private CountingScene(int work, long pauseMillis) {
+            this.work = work;
+            this.pauseMillis = pauseMillis;
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            if (!updating.compareAndSet(false, true)) {
+                overlapped.set(true);
+            }
+
+            double value = deltaTime;
+            for (int i = 0; i < work; i++) {
+                value = Math.sin(value + i);
+            }
+            sink = value;
+            threads.add(Thread.currentThread());
+
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            updates.incrementAndGet();
+            updating.set(false);
+        }
+    }
+
+    /**
+     * A scene that blocks its worker for a fixed time on every update.
+     */
+    private static class SleepingScene extends AnimationManager {
+
+        private final long millis;
+
+        private SleepingScene(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}